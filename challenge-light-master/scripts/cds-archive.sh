@@ -0,0 +1,72 @@
+#!/bin/sh
+# Unpacks the executable jar built with `./mvnw -Pprod package` into a thin layout (application
+# classes in app.jar, dependencies in lib/) and records an application class-data sharing archive
+# from a training run. Classes inside nested jars or directories cannot be archived, so only plain
+# jars may be on the class path.
+#
+# Usage: scripts/cds-archive.sh [url]
+# Run:   java -XX:SharedArchiveFile=target/exploded/app.jsa -cp "target/exploded/app.jar:target/exploded/lib/*" \
+#             com.ndvr.challenge.ChallengeApplication --spring.profiles.active=prod
+
+set -e
+
+cd "$(dirname "$0")/.."
+
+URL=${1:-http://localhost:8080/market-data/ping}
+JAR=target/challenge-lite-0.1.0.jar
+DIR=target/exploded
+CP="$DIR/app.jar:$DIR/lib/*"
+MAIN=com.ndvr.challenge.ChallengeApplication
+
+if [ ! -f "$JAR" ]; then
+    echo "$JAR not found, build it with ./mvnw -Pprod package" >&2
+    exit 1
+fi
+
+rm -rf "$DIR"
+mkdir -p "$DIR/unpacked"
+(cd "$DIR/unpacked" && jar -xf "../../../$JAR")
+jar -cf "$DIR/app.jar" -C "$DIR/unpacked/BOOT-INF/classes" .
+mv "$DIR/unpacked/BOOT-INF/lib" "$DIR/lib"
+rm -rf "$DIR/unpacked"
+
+JAVA_MAJOR=$(java -version 2>&1 | head -1 | sed -E 's/.*version "(1\.)?([0-9]+).*/\2/')
+
+# Starts the application with the given JVM options, waits for the first successful request
+# and shuts it down again so the JVM writes out what it recorded.
+train() {
+    java "$@" -cp "$CP" $MAIN --spring.profiles.active=prod > "$DIR/training.log" 2>&1 &
+    PID=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 $PID 2>/dev/null; then
+            echo "Training run failed, see $DIR/training.log" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+    kill $PID
+    # a JVM stopped by SIGTERM exits with 143
+    wait $PID || [ $? -eq 143 ]
+}
+
+if [ "$JAVA_MAJOR" -ge 13 ]; then
+    train -XX:ArchiveClassesAtExit="$DIR/app.jsa"
+elif [ "$JAVA_MAJOR" -ge 10 ]; then
+    APPCDS=""
+    if [ "$JAVA_MAJOR" -eq 10 ]; then
+        APPCDS="-XX:+UseAppCDS"
+    fi
+    train $APPCDS -XX:DumpLoadedClassList="$DIR/app.classlist"
+    java $APPCDS -Xshare:dump -XX:SharedClassListFile="$DIR/app.classlist" -XX:SharedArchiveFile="$DIR/app.jsa" \
+        -cp "$CP" > "$DIR/dump.log" 2>&1 || rm -f "$DIR/app.jsa"
+else
+    echo "Application class-data sharing needs Java 10 or later" >&2
+    exit 1
+fi
+
+if [ ! -s "$DIR/app.jsa" ]; then
+    echo "No archive was written, see the logs in $DIR" >&2
+    exit 1
+fi
+
+echo "Created $DIR/app.jsa"
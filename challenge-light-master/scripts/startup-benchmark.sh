@@ -0,0 +1,61 @@
+#!/bin/sh
+# Measures time to first successful request and resident memory of the application started by
+# the given command. Each run starts a fresh JVM; the median of all runs is reported.
+#
+# Usage: scripts/startup-benchmark.sh [-n runs] [-u url] -- <command...>
+# e.g.   scripts/startup-benchmark.sh -n 10 -- java -jar target/challenge-lite-0.1.0.war
+
+set -e
+
+RUNS=5
+URL=http://localhost:8080/market-data/ping
+
+while [ $# -gt 0 ]; do
+    case "$1" in
+        -n) RUNS=$2; shift 2 ;;
+        -u) URL=$2; shift 2 ;;
+        --) shift; break ;;
+        *) break ;;
+    esac
+done
+
+if [ $# -eq 0 ]; then
+    echo "Usage: $0 [-n runs] [-u url] -- <command...>" >&2
+    exit 1
+fi
+
+millis() {
+    date +%s%3N
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { print (NR % 2) ? v[(NR + 1) / 2] : int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+TIMES=$(mktemp)
+RSS=$(mktemp)
+trap 'rm -f "$TIMES" "$RSS"' EXIT
+
+i=1
+while [ $i -le "$RUNS" ]; do
+    START=$(millis)
+    "$@" > /dev/null 2>&1 &
+    PID=$!
+    until curl -sf -o /dev/null "$URL"; do
+        if ! kill -0 $PID 2>/dev/null; then
+            echo "Application exited before serving $URL" >&2
+            exit 1
+        fi
+        sleep 0.05
+    done
+    END=$(millis)
+    echo $((END - START)) >> "$TIMES"
+    ps -o rss= -p $PID >> "$RSS"
+    kill $PID
+    wait $PID 2>/dev/null || true
+    echo "run $i: $((END - START)) ms, $(tail -1 "$RSS" | tr -d ' ') KB RSS"
+    i=$((i + 1))
+done
+
+echo "median time to first request: $(median < "$TIMES") ms"
+echo "median resident memory:       $(median < "$RSS") KB"
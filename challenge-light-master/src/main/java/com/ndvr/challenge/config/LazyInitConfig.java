@@ -0,0 +1,34 @@
+package com.ndvr.challenge.config;
+
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Marks every singleton as lazy when {@code com.ndvr.startup.lazy-init=true}, so beans that are
+ * not needed to serve the first request are only created on first use.
+ */
+@Configuration
+@Slf4j
+@ConditionalOnProperty(name = "com.ndvr.startup.lazy-init")
+public class LazyInitConfig {
+
+    @Bean
+    public static BeanFactoryPostProcessor lazyInitBeanFactoryPostProcessor() {
+        return beanFactory -> {
+            int count = 0;
+            for (String name : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(name);
+                if (definition.isSingleton() && !definition.isLazyInit()) {
+                    definition.setLazyInit(true);
+                    count++;
+                }
+            }
+            log.info("Marked {} bean definitions as lazy", count);
+        };
+    }
+}
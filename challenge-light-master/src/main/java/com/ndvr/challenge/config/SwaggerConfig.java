@@ -0,0 +1,30 @@
+package com.ndvr.challenge.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import springfox.documentation.builders.PathSelectors;
+import springfox.documentation.builders.RequestHandlerSelectors;
+import springfox.documentation.spi.DocumentationType;
+import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.swagger2.annotations.EnableSwagger2;
+
+/**
+ * Swagger is only meant for debugging; scanning the handler mappings is a noticeable part of the
+ * startup time, so it can be switched off with {@code com.ndvr.swagger.enabled=false}.
+ */
+@Configuration
+@EnableSwagger2
+@ConditionalOnProperty(name = "com.ndvr.swagger.enabled", matchIfMissing = true)
+public class SwaggerConfig {
+
+    @Bean
+    public Docket swaggerDocket() {
+        return new Docket(DocumentationType.SWAGGER_2)
+                .select()
+                .apis(RequestHandlerSelectors.basePackage("com.ndvr"))
+                .paths(PathSelectors.any())
+                .build();
+    }
+}
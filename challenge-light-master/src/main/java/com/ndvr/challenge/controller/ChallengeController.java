@@ -3,10 +3,13 @@ package com.ndvr.challenge.controller;
 import lombok.AllArgsConstructor;
 
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.ndvr.challenge.model.Asset;
 import com.ndvr.challenge.model.Pricing;
+import com.ndvr.challenge.model.ReturnStatistics;
 import com.ndvr.challenge.service.ChallengeService;
 
 import static java.time.LocalDate.now;
@@ -22,6 +25,14 @@ public class ChallengeController {
 
     private final ChallengeService challengeService;
 
+    /**
+     * Answers without calling Yahoo, e.g. to probe startup in scripts/startup-benchmark.sh
+     */
+    @RequestMapping("ping")
+    public String ping() {
+        return "pong";
+    }
+
     @RequestMapping("{asset}/historical")
     public List<Pricing> getHistoricalAssetData(@PathVariable Asset asset, 
             @RequestParam("startDate") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) Optional<LocalDate> startDate,
@@ -36,4 +47,14 @@ public class ChallengeController {
     public List<Pricing> getProjectedAssetData(@PathVariable Asset asset) {
         return challengeService.getProjectedAssetData(asset);
     }
+
+    @RequestMapping("{asset}/statistics")
+    public ReturnStatistics getAssetStatistics(@PathVariable Asset asset) {
+        return challengeService.getAssetStatistics(asset);
+    }
+
+    @RequestMapping(value = "{asset}/subscribe", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeToAssetData(@PathVariable Asset asset) {
+        return challengeService.subscribeToAssetData(asset);
+    }
 }
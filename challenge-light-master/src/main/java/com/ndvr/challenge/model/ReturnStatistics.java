@@ -0,0 +1,116 @@
+package com.ndvr.challenge.model;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonInclude.Include;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Running statistics of the daily log returns of one symbol: Welford mean/variance, EWMA volatility,
+ * min/max and count. Each bar is applied in O(1) and statistics of consecutive date ranges can be
+ * merged, so a history can be split into partitions and reduced in parallel.
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+@JsonInclude( Include.NON_NULL )
+@JsonIgnoreProperties({"m2", "ewmaSum", "ewmaWeight", "firstClose", "lastClose"})
+public class ReturnStatistics {
+
+    /** RiskMetrics decay factor for daily returns */
+    public static final double EWMA_LAMBDA = 0.94;
+
+    public static final ReturnStatistics EMPTY = new ReturnStatistics(0, 0, 0, null, null, 0, 1, null, 0, null, 0);
+
+    private long count;
+    private double mean;
+    private double m2;
+    private Double min;
+    private Double max;
+    // sum of (1 - lambda) * lambda^(count - i) * r_i^2, i.e. the EWMA variance started from zero
+    private double ewmaSum;
+    // lambda^count, used for the start-up bias correction and for merging
+    private double ewmaWeight;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate firstDate;
+    private double firstClose;
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate lastDate;
+    private double lastClose;
+
+    public Double getVariance() {
+        return count > 1 ? m2 / (count - 1) : null;
+    }
+
+    public Double getStdDev() {
+        return count > 1 ? Math.sqrt(m2 / (count - 1)) : null;
+    }
+
+    public Double getEwmaVolatility() {
+        return count > 0 ? Math.sqrt(ewmaSum / (1 - ewmaWeight)) : null;
+    }
+
+    /**
+     * Applies the next bar. Bars without a positive close price or not after the last applied bar
+     * are ignored.
+     */
+    public ReturnStatistics add(Pricing pricing) {
+        if (pricing.getTradeDate() == null || pricing.getClosePrice() == null || pricing.getClosePrice().signum() <= 0) {
+            return this;
+        }
+        double close = pricing.getClosePrice().doubleValue();
+        if (firstDate == null) {
+            return new ReturnStatistics(0, 0, 0, null, null, 0, 1, pricing.getTradeDate(), close, pricing.getTradeDate(), close);
+        }
+        if (!pricing.getTradeDate().isAfter(lastDate)) {
+            return this;
+        }
+        return accumulate(Math.log(close / lastClose), pricing.getTradeDate(), close);
+    }
+
+    /**
+     * Combines these statistics with those of the directly following date range. The return
+     * between the last bar of this range and the first bar of the later one is included.
+     */
+    public ReturnStatistics merge(ReturnStatistics later) {
+        if (later.firstDate == null) {
+            return this;
+        }
+        if (firstDate == null) {
+            return later;
+        }
+        if (!later.firstDate.isAfter(lastDate)) {
+            throw new IllegalArgumentException("Cannot merge statistics starting " + later.firstDate + " after statistics ending " + lastDate);
+        }
+        ReturnStatistics joined = accumulate(Math.log(later.firstClose / lastClose), later.firstDate, later.firstClose);
+
+        long n = joined.count + later.count;
+        double delta = later.mean - joined.mean;
+        return new ReturnStatistics(n,
+                joined.mean + delta * later.count / n,
+                joined.m2 + later.m2 + delta * delta * joined.count * later.count / n,
+                later.min == null ? joined.min : Math.min(joined.min, later.min),
+                later.max == null ? joined.max : Math.max(joined.max, later.max),
+                later.ewmaWeight * joined.ewmaSum + later.ewmaSum,
+                joined.ewmaWeight * later.ewmaWeight,
+                firstDate, firstClose, later.lastDate, later.lastClose);
+    }
+
+    private ReturnStatistics accumulate(double logReturn, LocalDate date, double close) {
+        long n = count + 1;
+        double delta = logReturn - mean;
+        double newMean = mean + delta / n;
+        return new ReturnStatistics(n,
+                newMean,
+                m2 + delta * (logReturn - newMean),
+                min == null ? logReturn : Math.min(min, logReturn),
+                max == null ? logReturn : Math.max(max, logReturn),
+                EWMA_LAMBDA * ewmaSum + (1 - EWMA_LAMBDA) * logReturn * logReturn,
+                EWMA_LAMBDA * ewmaWeight,
+                firstDate, firstClose, date, close);
+    }
+}
@@ -4,10 +4,12 @@ import java.time.LocalDate;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.ndvr.challenge.dataprovider.YahooFinanceClient;
 import com.ndvr.challenge.model.Asset;
 import com.ndvr.challenge.model.Pricing;
+import com.ndvr.challenge.model.ReturnStatistics;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,10 +20,14 @@ import lombok.extern.slf4j.Slf4j;
 public class ChallengeService {
 
     private final YahooFinanceClient dataProvider;
+    private final StatisticsService statisticsService;
+    private final PricingFeedService pricingFeedService;
 
     public List<Pricing> getHistoricalAssetData(Asset asset, LocalDate fromDate, LocalDate toDate) {
         log.info("Fetching historical price data");
-        return dataProvider.fetchPriceData(asset.getSymbol(), fromDate, toDate);
+        List<Pricing> prices = dataProvider.fetchPriceData(asset.getSymbol(), fromDate, toDate);
+        statisticsService.update(asset, prices);
+        return prices;
     }
     
     public List<Pricing> getProjectedAssetData(Asset asset) {
@@ -30,4 +36,13 @@ public class ChallengeService {
         return null;
     }
 
+    public ReturnStatistics getAssetStatistics(Asset asset) {
+        return statisticsService.getStatistics(asset);
+    }
+
+    public SseEmitter subscribeToAssetData(Asset asset) {
+        log.info("Subscribing to price data");
+        return pricingFeedService.subscribe(asset);
+    }
+
 }
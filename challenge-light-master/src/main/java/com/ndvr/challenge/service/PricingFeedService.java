@@ -0,0 +1,223 @@
+package com.ndvr.challenge.service;
+
+import static java.time.LocalDate.now;
+
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import com.ndvr.challenge.dataprovider.YahooFinanceClient;
+import com.ndvr.challenge.model.Asset;
+import com.ndvr.challenge.model.Pricing;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pushes new price bars to Server-Sent Events subscribers. Every subscribed symbol is polled
+ * upstream by a single task, regardless of its number of subscribers, and only bars newer than the
+ * last polled one are fanned out. Idle subscriptions are plain async requests and hold no thread;
+ * sending is done by a small dispatcher pool draining a bounded buffer per subscriber.
+ */
+@Service
+@Slf4j
+public class PricingFeedService {
+
+    /** What happens when a subscriber's buffer is full */
+    public enum OverflowPolicy {
+        DROP_OLDEST,
+        CLOSE
+    }
+
+    // window of the first poll, only used to find the latest existing bar
+    private static final int INITIAL_LOOKBACK_DAYS = 7;
+
+    private final YahooFinanceClient dataProvider;
+    private final StatisticsService statisticsService;
+    private final long pollIntervalSeconds;
+    private final int bufferSize;
+    private final OverflowPolicy overflowPolicy;
+    private final long timeoutMillis;
+
+    private final ScheduledExecutorService poller;
+    private final ExecutorService dispatcher;
+    private final ConcurrentMap<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PricingFeedService(YahooFinanceClient dataProvider, StatisticsService statisticsService,
+            @Value("${com.ndvr.feed.poll-interval-seconds:60}") long pollIntervalSeconds,
+            @Value("${com.ndvr.feed.buffer-size:16}") int bufferSize,
+            @Value("${com.ndvr.feed.overflow-policy:DROP_OLDEST}") OverflowPolicy overflowPolicy,
+            @Value("${com.ndvr.feed.timeout-minutes:30}") long timeoutMinutes,
+            @Value("${com.ndvr.feed.poller-threads:2}") int pollerThreads,
+            @Value("${com.ndvr.feed.dispatcher-threads:4}") int dispatcherThreads) {
+        this(dataProvider, statisticsService, pollIntervalSeconds, bufferSize, overflowPolicy, timeoutMinutes,
+                Executors.newScheduledThreadPool(pollerThreads), Executors.newFixedThreadPool(dispatcherThreads));
+    }
+
+    PricingFeedService(YahooFinanceClient dataProvider, StatisticsService statisticsService,
+            long pollIntervalSeconds, int bufferSize, OverflowPolicy overflowPolicy, long timeoutMinutes,
+            ScheduledExecutorService poller, ExecutorService dispatcher) {
+        this.dataProvider = dataProvider;
+        this.statisticsService = statisticsService;
+        this.pollIntervalSeconds = pollIntervalSeconds;
+        this.bufferSize = bufferSize;
+        this.overflowPolicy = overflowPolicy;
+        this.timeoutMillis = TimeUnit.MINUTES.toMillis(timeoutMinutes);
+        this.poller = poller;
+        this.dispatcher = dispatcher;
+    }
+
+    public SseEmitter subscribe(Asset asset) {
+        String symbol = asset.getSymbol();
+        Subscription subscription = new Subscription(symbol, createEmitter());
+        subscription.emitter.onCompletion(() -> unsubscribe(subscription));
+        subscription.emitter.onTimeout(() -> unsubscribe(subscription));
+
+        feeds.compute(symbol, (key, feed) -> {
+            if (feed == null) {
+                log.info("Starting price feed for {}", symbol);
+                feed = new Feed(symbol);
+                Feed started = feed;
+                feed.task = poller.scheduleWithFixedDelay(() -> poll(started), 0, pollIntervalSeconds, TimeUnit.SECONDS);
+            }
+            feed.subscriptions.add(subscription);
+            return feed;
+        });
+        return subscription.emitter;
+    }
+
+    SseEmitter createEmitter() {
+        return new SseEmitter(timeoutMillis);
+    }
+
+    private void unsubscribe(Subscription subscription) {
+        subscription.closed = true;
+        feeds.computeIfPresent(subscription.symbol, (key, feed) -> {
+            feed.subscriptions.remove(subscription);
+            if (!feed.subscriptions.isEmpty()) {
+                return feed;
+            }
+            log.info("Stopping price feed for {}", key);
+            feed.task.cancel(false);
+            return null;
+        });
+    }
+
+    private void poll(Feed feed) {
+        try {
+            LocalDate fromDate = feed.lastDate != null ? feed.lastDate : now().minusDays(INITIAL_LOOKBACK_DAYS);
+            // the end date is exclusive, so today's bar, whose close is not final yet, is left for tomorrow's polls
+            List<Pricing> prices = dataProvider.fetchPriceData(feed.symbol, fromDate, now());
+            statisticsService.update(new Asset(feed.symbol), prices);
+
+            LocalDate lastDate = feed.lastDate;
+            for (Pricing pricing : prices) {
+                if (pricing.getTradeDate() == null || (lastDate != null && !pricing.getTradeDate().isAfter(lastDate))) {
+                    continue;
+                }
+                if (feed.lastDate != null) {
+                    feed.subscriptions.forEach(subscription -> subscription.offer(pricing));
+                }
+                lastDate = pricing.getTradeDate();
+            }
+            feed.lastDate = lastDate;
+        } catch (Exception e) {
+            // keep the schedule alive, the next poll retries
+            log.error("Failed to poll price data for {}", feed.symbol, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        poller.shutdownNow();
+        dispatcher.shutdownNow();
+        feeds.values().forEach(feed -> feed.subscriptions.forEach(subscription -> subscription.emitter.complete()));
+    }
+
+    private static class Feed {
+
+        private final String symbol;
+        private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+        private ScheduledFuture<?> task;
+        // only accessed by the poll task, which never runs concurrently with itself
+        private LocalDate lastDate;
+
+        Feed(String symbol) {
+            this.symbol = symbol;
+        }
+    }
+
+    private class Subscription {
+
+        private final String symbol;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Pricing> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscription(String symbol, SseEmitter emitter) {
+            this.symbol = symbol;
+            this.emitter = emitter;
+        }
+
+        void offer(Pricing pricing) {
+            if (closed) {
+                return;
+            }
+            if (!buffer.offer(pricing)) {
+                if (overflowPolicy == OverflowPolicy.CLOSE) {
+                    log.debug("Closing slow subscription to {}", symbol);
+                    close();
+                    return;
+                }
+                do {
+                    buffer.poll();
+                } while (!buffer.offer(pricing));
+                log.debug("Dropped oldest price update for slow subscription to {}", symbol);
+            }
+            if (draining.compareAndSet(false, true)) {
+                dispatcher.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Pricing pricing;
+                while (!closed && (pricing = buffer.poll()) != null) {
+                    try {
+                        emitter.send(SseEmitter.event().name("pricing").data(pricing));
+                    } catch (IOException | IllegalStateException e) {
+                        log.debug("Closing subscription to {}: {}", symbol, e.getMessage());
+                        close();
+                    }
+                }
+                // re-check after releasing, an update offered in between would otherwise wait for the next one
+                draining.set(false);
+            } while (!closed && !buffer.isEmpty() && draining.compareAndSet(false, true));
+        }
+
+        private void close() {
+            buffer.clear();
+            unsubscribe(this);
+            emitter.complete();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ndvr.challenge.service;
+
+import static java.time.LocalDate.now;
+import static java.util.Comparator.comparing;
+import static java.util.function.Function.identity;
+import static java.util.stream.Collectors.toMap;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.ndvr.challenge.dataprovider.YahooFinanceClient;
+import com.ndvr.challenge.model.Asset;
+import com.ndvr.challenge.model.Pricing;
+import com.ndvr.challenge.model.ReturnStatistics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps {@link ReturnStatistics} per symbol in memory. The history of a symbol is fetched once on
+ * first request; afterwards newly fetched bars are applied incrementally.
+ */
+@Service
+@Slf4j
+public class StatisticsService {
+
+    private final YahooFinanceClient dataProvider;
+    private final int historyYears;
+    private final ConcurrentMap<String, ReturnStatistics> statistics = new ConcurrentHashMap<>();
+
+    public StatisticsService(YahooFinanceClient dataProvider,
+            @Value("${com.ndvr.statistics.history-years:5}") int historyYears) {
+        this.dataProvider = dataProvider;
+        this.historyYears = historyYears;
+    }
+
+    public ReturnStatistics getStatistics(Asset asset) {
+        ReturnStatistics current = statistics.get(asset.getSymbol());
+        if (current != null) {
+            return current;
+        }
+        log.info("Loading return statistics for {}", asset.getSymbol());
+        LocalDate toDate = now();
+        ReturnStatistics loaded = compute(dataProvider.fetchPriceData(asset.getSymbol(), toDate.minusYears(historyYears), toDate));
+        if (loaded.getFirstDate() == null) {
+            // the client returns no data for unknown symbols and on errors alike, so retry next time
+            log.warn("No price data to compute return statistics for {}", asset.getSymbol());
+            return loaded;
+        }
+        current = statistics.putIfAbsent(asset.getSymbol(), loaded);
+        return current != null ? current : loaded;
+    }
+
+    /**
+     * Applies bars after the last known one to the statistics of an already tracked symbol. The bars
+     * have to include the last known bar, otherwise a gap could silently be counted as one return.
+     * Today's bar is ignored since its close is not final yet. If the close of the last known bar
+     * changed, e.g. because Yahoo adjusted the history for a split, the statistics are dropped and
+     * reloaded on the next request.
+     */
+    public void update(Asset asset, List<Pricing> prices) {
+        LocalDate today = now();
+        statistics.computeIfPresent(asset.getSymbol(), (symbol, current) -> {
+            Optional<Pricing> lastKnown = prices.stream()
+                    .filter(pricing -> current.getLastDate().equals(pricing.getTradeDate()))
+                    .findFirst();
+            if (!lastKnown.isPresent()) {
+                return current;
+            }
+            BigDecimal lastClose = lastKnown.get().getClosePrice();
+            if (lastClose == null || lastClose.doubleValue() != current.getLastClose()) {
+                log.info("Close of {} on {} changed from {} to {}, dropping return statistics",
+                        symbol, current.getLastDate(), current.getLastClose(), lastClose);
+                return null;
+            }
+            return prices.stream()
+                    .filter(pricing -> pricing.getTradeDate() != null && pricing.getTradeDate().isBefore(today))
+                    .sorted(comparing(Pricing::getTradeDate))
+                    .reduce(current, ReturnStatistics::add, ReturnStatistics::merge);
+        });
+    }
+
+    /**
+     * Reduces a price history in parallel: each partition is accumulated on its own and the
+     * partial statistics are merged in date order.
+     */
+    static ReturnStatistics compute(List<Pricing> prices) {
+        // one bar per trade date, in date order, so that partitions never overlap
+        TreeMap<LocalDate, Pricing> bars = prices.stream()
+                .filter(pricing -> pricing.getTradeDate() != null)
+                .collect(toMap(Pricing::getTradeDate, identity(), (first, second) -> first, TreeMap::new));
+        return new ArrayList<>(bars.values()).parallelStream()
+                .reduce(ReturnStatistics.EMPTY, ReturnStatistics::add, ReturnStatistics::merge);
+    }
+}
@@ -0,0 +1,116 @@
+package com.ndvr.challenge.model;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ReturnStatisticsUnitTests {
+
+    private static final double DELTA = 1e-12;
+
+    private final LocalDate START = LocalDate.parse("2017-01-02");
+
+    private List<Pricing> prices(double... closes) {
+        List<Pricing> prices = new ArrayList<>();
+        for (int i = 0; i < closes.length; i++) {
+            prices.add(Pricing.builder()
+                    .tradeDate(START.plusDays(i))
+                    .closePrice(BigDecimal.valueOf(closes[i]))
+                    .build());
+        }
+        return prices;
+    }
+
+    private ReturnStatistics accumulate(List<Pricing> prices) {
+        ReturnStatistics statistics = ReturnStatistics.EMPTY;
+        for (Pricing pricing : prices) {
+            statistics = statistics.add(pricing);
+        }
+        return statistics;
+    }
+
+    @Test
+    public void testAdd() {
+        double[] closes = {100, 102, 99, 101, 105, 104};
+        ReturnStatistics statistics = accumulate(prices(closes));
+
+        double[] returns = new double[closes.length - 1];
+        double mean = 0;
+        for (int i = 0; i < returns.length; i++) {
+            returns[i] = Math.log(closes[i + 1] / closes[i]);
+            mean += returns[i] / returns.length;
+        }
+        double variance = 0;
+        for (double r : returns) {
+            variance += (r - mean) * (r - mean) / (returns.length - 1);
+        }
+
+        assertEquals(5, statistics.getCount());
+        assertEquals(mean, statistics.getMean(), DELTA);
+        assertEquals(variance, statistics.getVariance(), DELTA);
+
+        double lambda = ReturnStatistics.EWMA_LAMBDA;
+        double ewma = 0;
+        for (int i = 0; i < returns.length; i++) {
+            ewma += (1 - lambda) * Math.pow(lambda, returns.length - 1 - i) * returns[i] * returns[i];
+        }
+        assertEquals(Math.sqrt(ewma / (1 - Math.pow(lambda, returns.length))), statistics.getEwmaVolatility(), DELTA);
+        assertEquals(Math.log(99.0 / 102), statistics.getMin(), DELTA);
+        assertEquals(Math.log(105.0 / 101), statistics.getMax(), DELTA);
+        assertEquals(START, statistics.getFirstDate());
+        assertEquals(START.plusDays(5), statistics.getLastDate());
+    }
+
+    @Test
+    public void testAdd_IgnoresOldAndInvalidBars() {
+        List<Pricing> prices = prices(100, 101);
+        ReturnStatistics statistics = accumulate(prices)
+                .add(prices.get(0))
+                .add(Pricing.builder().tradeDate(START.plusDays(7)).build())
+                .add(Pricing.builder().tradeDate(START.plusDays(8)).closePrice(BigDecimal.ZERO).build());
+
+        assertEquals(1, statistics.getCount());
+        assertEquals(START.plusDays(1), statistics.getLastDate());
+    }
+
+    @Test
+    public void testEmpty() {
+        ReturnStatistics statistics = accumulate(prices(100));
+
+        assertEquals(0, statistics.getCount());
+        assertNull(statistics.getVariance());
+        assertNull(statistics.getEwmaVolatility());
+        assertNull(statistics.getMin());
+    }
+
+    @Test
+    public void testMerge() {
+        List<Pricing> prices = prices(100, 102, 99, 101, 105, 104, 103, 107, 110);
+        ReturnStatistics expected = accumulate(prices);
+
+        ReturnStatistics merged = accumulate(prices.subList(0, 3))
+                .merge(accumulate(prices.subList(3, 4)))
+                .merge(ReturnStatistics.EMPTY)
+                .merge(accumulate(prices.subList(4, 9)));
+
+        assertEquals(expected.getCount(), merged.getCount());
+        assertEquals(expected.getMean(), merged.getMean(), DELTA);
+        assertEquals(expected.getVariance(), merged.getVariance(), DELTA);
+        assertEquals(expected.getEwmaVolatility(), merged.getEwmaVolatility(), DELTA);
+        assertEquals(expected.getMin(), merged.getMin());
+        assertEquals(expected.getMax(), merged.getMax());
+        assertEquals(expected.getLastDate(), merged.getLastDate());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testMerge_Overlapping() {
+        List<Pricing> prices = prices(100, 102, 99);
+        accumulate(prices).merge(accumulate(prices.subList(1, 3)));
+    }
+}
@@ -0,0 +1,207 @@
+package com.ndvr.challenge.service;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import com.ndvr.challenge.dataprovider.YahooFinanceClient;
+import com.ndvr.challenge.model.Asset;
+import com.ndvr.challenge.model.Pricing;
+import com.ndvr.challenge.service.PricingFeedService.OverflowPolicy;
+
+public class PricingFeedServiceUnitTests {
+
+    private static final int BUFFER_SIZE = 2;
+
+    @Mock
+    private YahooFinanceClient dataProvider;
+
+    @Mock
+    private StatisticsService statisticsService;
+
+    @Mock
+    private ScheduledExecutorService poller;
+
+    @Mock
+    private ScheduledFuture<?> task;
+
+    @Mock
+    private ExecutorService dispatcher;
+
+    private final String SYMBOL = "LOGM";
+    private final Asset ASSET = new Asset(SYMBOL);
+    private final LocalDate START = LocalDate.parse("2017-01-02");
+
+    private final List<Runnable> pollTasks = new ArrayList<>();
+    private final List<Runnable> dispatchTasks = new ArrayList<>();
+    private final List<SseEmitter> emitters = new ArrayList<>();
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        doAnswer(invocation -> {
+            pollTasks.add((Runnable) invocation.getArguments()[0]);
+            return task;
+        }).when(poller).scheduleWithFixedDelay(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+        doAnswer(invocation -> dispatchTasks.add((Runnable) invocation.getArguments()[0]))
+                .when(dispatcher).execute(any(Runnable.class));
+    }
+
+    private PricingFeedService service(OverflowPolicy overflowPolicy) {
+        return new PricingFeedService(dataProvider, statisticsService, 60, BUFFER_SIZE, overflowPolicy, 30, poller, dispatcher) {
+            @Override
+            SseEmitter createEmitter() {
+                SseEmitter emitter = mock(SseEmitter.class);
+                emitters.add(emitter);
+                return emitter;
+            }
+        };
+    }
+
+    private Pricing pricing(int day) {
+        return Pricing.builder()
+                .tradeDate(START.plusDays(day))
+                .closePrice(BigDecimal.valueOf(100 + day))
+                .build();
+    }
+
+    private void poll(Pricing... prices) {
+        doReturn(asList(prices)).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        pollTasks.forEach(Runnable::run);
+    }
+
+    private void dispatch() {
+        List<Runnable> tasks = new ArrayList<>(dispatchTasks);
+        dispatchTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+
+    private List<Pricing> sent(SseEmitter emitter) throws IOException {
+        ArgumentCaptor<SseEventBuilder> events = ArgumentCaptor.forClass(SseEventBuilder.class);
+        verify(emitter, atLeast(0)).send(events.capture());
+        List<Pricing> prices = new ArrayList<>();
+        for (SseEventBuilder event : events.getAllValues()) {
+            for (DataWithMediaType data : event.build()) {
+                if (data.getData() instanceof Pricing) {
+                    prices.add((Pricing) data.getData());
+                }
+            }
+        }
+        return prices;
+    }
+
+    private void completeEmitter(SseEmitter emitter) {
+        ArgumentCaptor<Runnable> callback = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onCompletion(callback.capture());
+        callback.getValue().run();
+    }
+
+    @Test
+    public void testSubscribe_SharedPoll() {
+        PricingFeedService service = service(OverflowPolicy.DROP_OLDEST);
+        service.subscribe(ASSET);
+        service.subscribe(ASSET);
+
+        assertEquals(1, pollTasks.size());
+
+        poll(pricing(0));
+        verify(dataProvider, times(1)).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    public void testPoll_FansOutOnlyNewBars() throws IOException {
+        PricingFeedService service = service(OverflowPolicy.DROP_OLDEST);
+        service.subscribe(ASSET);
+        service.subscribe(ASSET);
+
+        // the first poll only sets the baseline
+        poll(pricing(0), pricing(1));
+        dispatch();
+        assertEquals(0, sent(emitters.get(0)).size());
+
+        poll(pricing(1), pricing(2));
+        dispatch();
+        for (SseEmitter emitter : emitters) {
+            assertEquals(asList(pricing(2)), sent(emitter));
+        }
+
+        ArgumentCaptor<LocalDate> fromDate = ArgumentCaptor.forClass(LocalDate.class);
+        ArgumentCaptor<LocalDate> toDate = ArgumentCaptor.forClass(LocalDate.class);
+        verify(dataProvider, times(2)).fetchPriceData(eq(SYMBOL), fromDate.capture(), toDate.capture());
+        assertEquals(START.plusDays(1), fromDate.getValue());
+        // ends at today, which is exclusive: only completed bars, today's close is not final yet
+        assertEquals(LocalDate.now(), toDate.getValue());
+    }
+
+    @Test
+    public void testUnsubscribe_CancelsPollWithLastSubscriber() {
+        PricingFeedService service = service(OverflowPolicy.DROP_OLDEST);
+        service.subscribe(ASSET);
+        service.subscribe(ASSET);
+
+        completeEmitter(emitters.get(0));
+        verify(task, never()).cancel(false);
+
+        completeEmitter(emitters.get(1));
+        verify(task).cancel(false);
+
+        service.subscribe(ASSET);
+        assertEquals(2, pollTasks.size());
+    }
+
+    @Test
+    public void testOffer_DropOldest() throws IOException {
+        PricingFeedService service = service(OverflowPolicy.DROP_OLDEST);
+        service.subscribe(ASSET);
+
+        poll(pricing(0));
+        poll(pricing(0), pricing(1), pricing(2), pricing(3), pricing(4), pricing(5));
+        assertEquals(1, dispatchTasks.size());
+        dispatch();
+
+        assertEquals(asList(pricing(4), pricing(5)), sent(emitters.get(0)));
+        verify(emitters.get(0), never()).complete();
+    }
+
+    @Test
+    public void testOffer_Close() throws IOException {
+        PricingFeedService service = service(OverflowPolicy.CLOSE);
+        service.subscribe(ASSET);
+
+        poll(pricing(0));
+        poll(pricing(0), pricing(1), pricing(2), pricing(3));
+        dispatch();
+
+        verify(emitters.get(0)).complete();
+        assertEquals(0, sent(emitters.get(0)).size());
+        verify(task).cancel(false);
+    }
+}
@@ -0,0 +1,170 @@
+package com.ndvr.challenge.service;
+
+import static java.util.Collections.emptyList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import com.ndvr.challenge.dataprovider.YahooFinanceClient;
+import com.ndvr.challenge.model.Asset;
+import com.ndvr.challenge.model.Pricing;
+import com.ndvr.challenge.model.ReturnStatistics;
+
+public class StatisticsServiceUnitTests {
+
+    private static final double DELTA = 1e-12;
+
+    private StatisticsService service;
+
+    @Mock
+    private YahooFinanceClient dataProvider;
+
+    private final String SYMBOL = "LOGM";
+    private final Asset ASSET = new Asset(SYMBOL);
+    private final LocalDate START = LocalDate.parse("2017-01-02");
+
+    @Before
+    public void init() {
+        MockitoAnnotations.initMocks(this);
+        service = new StatisticsService(dataProvider, 5);
+    }
+
+    private Pricing pricing(int day, double close) {
+        return Pricing.builder()
+                .tradeDate(START.plusDays(day))
+                .closePrice(BigDecimal.valueOf(close))
+                .build();
+    }
+
+    private List<Pricing> prices(int fromDay, int toDay) {
+        List<Pricing> prices = new ArrayList<>();
+        for (int day = fromDay; day < toDay; day++) {
+            prices.add(pricing(day, 100 + day % 7));
+        }
+        return prices;
+    }
+
+    @Test
+    public void testCompute() {
+        Random random = new Random(42);
+        List<Pricing> prices = new ArrayList<>();
+        double close = 100;
+        for (int day = 0; day < 500; day++) {
+            close *= Math.exp(random.nextGaussian() * 0.02);
+            prices.add(pricing(day, close));
+            if (day % 50 == 0) {
+                // duplicate date with a different close, the first bar of a date wins
+                prices.add(pricing(day, close * 2));
+            }
+        }
+
+        ReturnStatistics expected = ReturnStatistics.EMPTY;
+        for (Pricing pricing : prices) {
+            expected = expected.add(pricing);
+        }
+        ReturnStatistics computed = StatisticsService.compute(prices);
+
+        assertEquals(499, computed.getCount());
+        assertEquals(expected.getCount(), computed.getCount());
+        assertEquals(expected.getMean(), computed.getMean(), DELTA);
+        assertEquals(expected.getVariance(), computed.getVariance(), DELTA);
+        assertEquals(expected.getEwmaVolatility(), computed.getEwmaVolatility(), DELTA);
+        assertEquals(expected.getMin(), computed.getMin(), DELTA);
+        assertEquals(expected.getMax(), computed.getMax(), DELTA);
+        assertEquals(expected.getFirstDate(), computed.getFirstDate());
+        assertEquals(expected.getLastDate(), computed.getLastDate());
+    }
+
+    @Test
+    public void testGetStatistics() {
+        doReturn(prices(0, 10)).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+
+        ReturnStatistics statistics = service.getStatistics(ASSET);
+
+        assertEquals(9, statistics.getCount());
+        assertSame(statistics, service.getStatistics(ASSET));
+        verify(dataProvider, times(1)).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    public void testGetStatistics_NoData() {
+        doReturn(emptyList()).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+
+        assertNull(service.getStatistics(ASSET).getFirstDate());
+        service.getStatistics(ASSET);
+
+        verify(dataProvider, times(2)).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+    }
+
+    @Test
+    public void testUpdate() {
+        doReturn(prices(0, 10)).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        service.getStatistics(ASSET);
+
+        // does not include the last known bar of day 9
+        service.update(ASSET, prices(12, 15));
+        assertEquals(9, service.getStatistics(ASSET).getCount());
+        assertEquals(START.plusDays(9), service.getStatistics(ASSET).getLastDate());
+
+        service.update(ASSET, prices(5, 13));
+        assertEquals(12, service.getStatistics(ASSET).getCount());
+        assertEquals(START.plusDays(12), service.getStatistics(ASSET).getLastDate());
+    }
+
+    @Test
+    public void testUpdate_UnknownSymbol() {
+        service.update(ASSET, prices(0, 10));
+
+        doReturn(emptyList()).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        assertNull(service.getStatistics(ASSET).getFirstDate());
+    }
+
+    @Test
+    public void testUpdate_IgnoresToday() {
+        doReturn(prices(0, 10)).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        service.getStatistics(ASSET);
+
+        List<Pricing> prices = prices(9, 11);
+        prices.add(Pricing.builder().tradeDate(LocalDate.now()).closePrice(BigDecimal.valueOf(50)).build());
+        service.update(ASSET, prices);
+
+        assertEquals(10, service.getStatistics(ASSET).getCount());
+        assertEquals(START.plusDays(10), service.getStatistics(ASSET).getLastDate());
+    }
+
+    @Test
+    public void testUpdate_ChangedLastClose() {
+        doReturn(prices(0, 10)).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        service.getStatistics(ASSET);
+
+        // history adjusted for a 10:1 split after the last load
+        List<Pricing> prices = new ArrayList<>();
+        for (Pricing pricing : prices(9, 12)) {
+            prices.add(pricing.toBuilder().closePrice(pricing.getClosePrice().divide(BigDecimal.TEN)).build());
+        }
+        service.update(ASSET, prices);
+
+        doReturn(prices).when(dataProvider).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        ReturnStatistics reloaded = service.getStatistics(ASSET);
+
+        verify(dataProvider, times(2)).fetchPriceData(eq(SYMBOL), any(LocalDate.class), any(LocalDate.class));
+        assertEquals(2, reloaded.getCount());
+        assertEquals(START.plusDays(9), reloaded.getFirstDate());
+    }
+}